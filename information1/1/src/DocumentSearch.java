@@ -1,4 +1,4 @@
-import java.util.Scanner;
+import java.util.*;
 
 public class DocumentSearch {
     public static void main(String[] args) {
@@ -9,35 +9,21 @@ public class DocumentSearch {
                 "My friend watch the sun come up."
         };
 
+        Map<String, String> docs = new LinkedHashMap<>();
+        for (int i = 0; i < docIDs.length; i++) {
+            docs.put(docIDs[i], contents[i]);
+        }
+        Engine engine = new Engine(new RegexSegmenter());
+        engine.indexDocuments(docs);
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("Please input the keyword to search:");
         String keyword = scanner.nextLine().trim().toLowerCase();
 
-        for (int i = 0; i < docIDs.length; i++) {
-            if (containsSubstring(contents[i].toLowerCase(), keyword)) {
-                System.out.println(docIDs[i] + ".txt");
-            }
+        Map<String, Double> result = engine.search(new SubstringScorer(), keyword);
+        if (result != null) {
+            result.keySet().forEach(doc -> System.out.println(doc + ".txt"));
         }
         scanner.close();
     }
-
-    public static boolean containsSubstring(String content, String keyword) {
-        int contentLength = content.length();
-        int keywordLength = keyword.length();
-
-        if (keywordLength > contentLength) {
-            return false;
-        }
-
-        for (int i = 0; i <= contentLength - keywordLength; i++) {
-            int j = 0;
-            while (j < keywordLength && content.charAt(i + j) == keyword.charAt(j)) {
-                j++;
-            }
-            if (j == keywordLength) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
@@ -1,4 +1,4 @@
-import java.util.Scanner;
+import java.util.*;
 
 public class Search {
     public static void main(String[] args) {
@@ -9,21 +9,21 @@ public class Search {
                 "My friend watch the sun come up."
         };
 
+        Map<String, String> docs = new LinkedHashMap<>();
+        for (int i = 0; i < docIDs.length; i++) {
+            docs.put(docIDs[i], contents[i]);
+        }
+        Engine engine = new Engine(new RegexSegmenter());
+        engine.indexDocuments(docs);
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("Please input the keyword to search:");
         String keyword = scanner.nextLine().trim().toLowerCase();
 
-        for (int i = 0; i < docIDs.length; i++) {
-            if (containsWholeWord(contents[i].toLowerCase(), keyword)) {
-                System.out.println(docIDs[i] + ".txt");
-            }
+        Map<String, Double> result = engine.search(new WholeWordScorer(), keyword);
+        if (result != null) {
+            result.keySet().forEach(doc -> System.out.println(doc + ".txt"));
         }
         scanner.close();
     }
-
-    public static boolean containsWholeWord(String content, String keyword) {
-        String regex = "\\b" + keyword + "\\b";
-        return content.matches(".*" + regex + ".*");
-    }
 }
-
@@ -4,54 +4,16 @@ import java.util.*;
 public class SearchEngine {
     private static final String DATA_DIR = "D:\\IDEA\\information1";
     private static final String INDEX_FILE = "index.txt";
-    private static Map<String, List<String>> invertedIndex = new HashMap<>();
+    private static final Scorer scorer = new TermScorer();
+    private static Engine engine;
 
     public static void main(String[] args) throws IOException {
-        preprocessDocuments();
+        engine = new Engine(new RegexSegmenter(), new SerializedPostingsFormat(), INDEX_FILE);
+        engine.open(DATA_DIR);
         searchOnline();
     }
 
-    private static void preprocessDocuments() throws IOException {
-        File dir = new File(DATA_DIR);
-        if (!dir.exists()) return;
-
-        File[] files = dir.listFiles((d, name) -> name.endsWith(".txt"));
-        if (files == null) return;
-
-        for (File file : files) {
-            String docID = file.getName().replace(".txt", "");
-            String content = readFileContent(file);
-            indexDocument(docID, content);
-        }
-        saveIndexToFile();
-    }
-
-    private static String readFileContent(File file) throws IOException {
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append(" ");
-            }
-        }
-        return content.toString().trim();
-    }
-
-    private static void indexDocument(String docID, String content) {
-        String[] words = content.toLowerCase().split("\\W+");
-        for (String word : words) {
-            invertedIndex.computeIfAbsent(word, k -> new ArrayList<>()).add(docID);
-        }
-    }
-
-    private static void saveIndexToFile() throws IOException {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(INDEX_FILE))) {
-            out.writeObject(invertedIndex);
-        }
-    }
-
     private static void searchOnline() throws IOException {
-        loadIndexFromFile();
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -60,8 +22,9 @@ public class SearchEngine {
 
             if (keyword.equals("exit")) break;
 
-            if (invertedIndex.containsKey(keyword)) {
-                for (String docID : invertedIndex.get(keyword)) {
+            Map<String, Double> result = engine.search(scorer, keyword);
+            if (result != null && !result.isEmpty()) {
+                for (String docID : result.keySet()) {
                     System.out.println(docID + ".txt");
                 }
             } else {
@@ -70,12 +33,4 @@ public class SearchEngine {
         }
         scanner.close();
     }
-
-    private static void loadIndexFromFile() {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(INDEX_FILE))) {
-            invertedIndex = (Map<String, List<String>>) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            System.out.println("索引文件未找到或读取失败，可能需要重新生成。");
-        }
-    }
 }
@@ -0,0 +1,299 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+// 查询回放压测：按固定到达率（开环）发出查询，延迟从计划发出时刻算起，
+// 系统变慢时排队时间也计入延迟，避免协调遗漏（coordinated omission）。
+// 按查询类型统计 p50/p99/p999、吞吐量、每次查询的内存分配量和出错次数，并与基线比较。
+// 抛异常的查询同样计入延迟，另记一次错误。
+//
+// 用法：java LoadTest [--rate 每秒查询数] [--duration 秒] [--warmup 秒] [--threads 线程数]
+//                     [--queries 查询日志] [--baseline 基线文件] [--save-baseline] [--tolerance 0.10]
+// 查询日志每行为 "类型<TAB>查询"，类型为 exact / multi / jaccard / predict；
+// 不指定时按索引词表随机生成。发现退化时以退出码 1 结束，可直接用于 CI。
+public class LoadTest {
+    private static final int TOP_N_PREDICTIONS = 5;
+    // 随机生成的查询中包含不存在词的比例
+    private static final double MISSING_TERM_RATIO = 0.1;
+
+    private static final Predictor predictor = new BigramPredictor();
+
+    // PREDICT 走 Predictor，其余类型走各自的 Scorer，全部共享同一个已加载的 Engine
+    enum QueryType {
+        EXACT("exact", new TermScorer()), MULTI("multi", new BooleanScorer()),
+        JACCARD("jaccard", new JaccardScorer()), PREDICT("predict", null);
+
+        final String key;
+        final Scorer scorer;
+
+        QueryType(String key, Scorer scorer) {
+            this.key = key;
+            this.scorer = scorer;
+        }
+
+        static QueryType of(String key) {
+            for (QueryType t : values()) {
+                if (t.key.equals(key)) return t;
+            }
+            throw new IllegalArgumentException("未知查询类型：" + key);
+        }
+    }
+
+    static final class Query {
+        final QueryType type;
+        final String text;
+
+        Query(QueryType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+    }
+
+    static final class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private long allocatedBytes;
+
+        synchronized void record(long latencyNanos, long allocated, boolean failed) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            allocatedBytes += allocated;
+            if (failed) errors++;
+        }
+
+        synchronized Map<String, Double> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Double> m = new LinkedHashMap<>();
+            m.put("count", (double) count);
+            m.put("errors", (double) errors);
+            m.put("p50", percentile(sorted, 0.50) / 1e6);
+            m.put("p99", percentile(sorted, 0.99) / 1e6);
+            m.put("p999", percentile(sorted, 0.999) / 1e6);
+            m.put("throughput", count / seconds);
+            m.put("allocPerQuery", count == 0 ? 0 : (double) allocatedBytes / count);
+            return m;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int idx = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "200"));
+        double duration = Double.parseDouble(opts.getOrDefault("duration", "30"));
+        double warmup = Double.parseDouble(opts.getOrDefault("warmup", "5"));
+        int threads = Integer.parseInt(opts.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        double tolerance = Double.parseDouble(opts.getOrDefault("tolerance", "0.10"));
+
+        Engine engine = SearchEngine.loadEngine(false);
+        List<Query> queries = opts.containsKey("queries")
+                ? readQueryLog(new File(opts.get("queries")))
+                : generateQueries(engine.index(), 10000, new Random(42));
+        if (queries.isEmpty()) {
+            System.out.println("没有可用的查询");
+            return;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            if (warmup > 0) {
+                System.out.printf("预热 %.0f 秒...%n", warmup);
+                run(engine, queries, workers, rate, warmup, null);
+            }
+            Map<QueryType, Stats> stats = new EnumMap<>(QueryType.class);
+            for (QueryType t : QueryType.values()) {
+                stats.put(t, new Stats());
+            }
+            System.out.printf("压测 %.0f 秒，目标 %.0f 次/秒，%d 个线程...%n", duration, rate, threads);
+            double elapsed = run(engine, queries, workers, rate, duration, stats);
+
+            Map<String, Double> results = new LinkedHashMap<>();
+            System.out.printf("%-8s %8s %8s %10s %10s %10s %10s %12s%n",
+                    "类型", "次数", "错误", "p50(ms)", "p99(ms)", "p999(ms)", "次/秒", "分配(B/次)");
+            for (QueryType t : QueryType.values()) {
+                Map<String, Double> s = stats.get(t).summarize(elapsed);
+                if (s.get("count") == 0) continue;
+                System.out.printf("%-8s %8.0f %8.0f %10.3f %10.3f %10.3f %10.1f %12.0f%n", t.key,
+                        s.get("count"), s.get("errors"), s.get("p50"), s.get("p99"), s.get("p999"),
+                        s.get("throughput"), s.get("allocPerQuery"));
+                s.forEach((k, v) -> results.put(t.key + "." + k, v));
+            }
+
+            String baseline = opts.get("baseline");
+            if (baseline == null) return;
+            File baselineFile = new File(baseline);
+            if (opts.containsKey("save-baseline")) {
+                saveBaseline(baselineFile, results);
+                System.out.println("基线已保存：" + baselineFile);
+            } else if (!compareWithBaseline(baselineFile, results, tolerance)) {
+                System.exit(1);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // 返回实际经过的秒数；stats 为 null 时只执行不记录（预热）
+    private static double run(Engine engine, List<Query> queries, ExecutorService workers,
+                              double rate, double seconds, Map<QueryType, Stats> stats) throws InterruptedException {
+        long intervalNanos = (long) (1e9 / rate);
+        long total = (long) (rate * seconds);
+        CountDownLatch done = new CountDownLatch((int) total);
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocMx = mx instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) mx : null;
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Query q = queries.get((int) (i % queries.size()));
+            workers.execute(() -> {
+                try {
+                    long tid = Thread.currentThread().getId();
+                    long before = allocMx == null ? 0 : allocMx.getThreadAllocatedBytes(tid);
+                    boolean failed = false;
+                    try {
+                        execute(engine, q);
+                    } catch (RuntimeException e) {
+                        // 语法错误、读文档存储失败等，计入错误而不是丢掉样本或让工作线程退出
+                        failed = true;
+                    }
+                    long end = System.nanoTime();
+                    long allocated = allocMx == null ? 0 : allocMx.getThreadAllocatedBytes(tid) - before;
+                    if (stats != null) {
+                        stats.get(q.type).record(end - intended, allocated, failed);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static void execute(Engine engine, Query q) {
+        if (q.type == QueryType.PREDICT) {
+            engine.predict(predictor, q.text.toLowerCase(), TOP_N_PREDICTIONS);
+        } else {
+            engine.search(q.type.scorer, q.text);
+        }
+    }
+
+    private static List<Query> generateQueries(SegmentedIndex index, int n, Random random) {
+        List<String> vocab;
+        SegmentedIndex.Snapshot snapshot = index.acquire();
+        try {
+            vocab = new ArrayList<>(snapshot.terms());
+        } finally {
+            snapshot.release();
+        }
+        Collections.sort(vocab);
+        List<Query> queries = new ArrayList<>(n);
+        if (vocab.isEmpty()) return queries;
+        QueryType[] types = QueryType.values();
+        for (int i = 0; i < n; i++) {
+            QueryType type = types[i % types.length];
+            int terms = type == QueryType.EXACT || type == QueryType.PREDICT ? 1 : 2 + random.nextInt(3);
+            StringJoiner sj = new StringJoiner(" ");
+            for (int j = 0; j < terms; j++) {
+                if (j > 0 && type == QueryType.MULTI && random.nextInt(4) == 0) {
+                    sj.add(random.nextBoolean() ? "OR" : "NOT");
+                }
+                sj.add(random.nextDouble() < MISSING_TERM_RATIO
+                        ? "missing" + random.nextInt(1000)
+                        : vocab.get(random.nextInt(vocab.size())));
+            }
+            queries.add(new Query(type, sj.toString()));
+        }
+        return queries;
+    }
+
+    private static List<Query> readQueryLog(File file) throws IOException {
+        List<Query> queries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab == -1 || line.startsWith("#")) continue;
+                queries.add(new Query(QueryType.of(line.substring(0, tab).trim()), line.substring(tab + 1).trim()));
+            }
+        }
+        return queries;
+    }
+
+    private static void saveBaseline(File file, Map<String, Double> results) throws IOException {
+        Properties props = new Properties();
+        results.forEach((k, v) -> props.setProperty(k, String.valueOf(v)));
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            props.store(writer, "LoadTest baseline");
+        }
+    }
+
+    // 延迟或分配量高于基线 (1 + tolerance) 倍、吞吐量低于基线 (1 - tolerance) 倍，
+    // 或错误次数多于基线（基线中没有时按 0 计）视为退化
+    private static boolean compareWithBaseline(File file, Map<String, Double> results, double tolerance)
+            throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        boolean ok = true;
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            String key = entry.getKey();
+            String expected = baseline.getProperty(key);
+            if (key.endsWith(".errors") && expected == null) expected = "0";
+            if (expected == null || key.endsWith(".count")) continue;
+            double base = Double.parseDouble(expected);
+            double actual = entry.getValue();
+            boolean regressed;
+            if (key.endsWith(".errors")) {
+                regressed = actual > base;
+            } else if (key.endsWith(".throughput")) {
+                regressed = actual < base * (1 - tolerance);
+            } else {
+                regressed = actual > base * (1 + tolerance);
+            }
+            if (regressed) {
+                System.out.printf("性能退化 %s：基线 %.3f，本次 %.3f%n", key, base, actual);
+                ok = false;
+            }
+        }
+        System.out.println(ok ? "与基线相比无退化" : "发现性能退化");
+        return ok;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数：" + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                opts.put(key, args[++i]);
+            } else {
+                opts.put(key, "true");
+            }
+        }
+        return opts;
+    }
+}
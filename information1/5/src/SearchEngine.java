@@ -1,227 +1,109 @@
 import java.io.*;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.nio.charset.StandardCharsets;
 
 public class SearchEngine {
     private static final String DATA_DIR = "D:\\IDEA\\information1";
     private static final String INDEX_FILE = "index.txt";
     private static final String DICTIONARY_FILE = "dictionary.txt";
-    private static final int MAX_WORD_LENGTH = 6;
     private static final int TOP_N_PREDICTIONS = 5;
 
-    private static Set<String> dictionary = new HashSet<>();
-    private static Map<String, List<String>> invertedIndex = new HashMap<>();
-    private static Map<String, Map<String, Integer>> bigramCounts = new HashMap<>();
-    private static Map<String, Integer> unigramCounts = new HashMap<>();
+    private static final Scorer scorer = new BooleanScorer();
+    private static final Predictor predictor = new BigramPredictor();
+    private static Engine engine;
 
     public static void main(String[] args) throws IOException {
-        loadDictionary();
-        preprocessDocuments();
+        boolean live = args.length > 0 && args[0].equals("--live");
+        loadEngine(live);
+        if (live) {
+            engine.startLive(DATA_DIR, DICTIONARY_FILE);
+        }
         searchOnline();
     }
 
-    private static void loadDictionary() throws IOException {
-        File file = new File(DICTIONARY_FILE);
-        if (!file.exists()) return;
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                dictionary.add(line.trim());
-            }
+    // 加载词典、建索引并装入第一个段；LoadTest 也通过这里初始化
+    static Engine loadEngine(boolean live) throws IOException {
+        engine = new Engine(DictionarySegmenter.load(new File(DICTIONARY_FILE)), new TextPostingsFormat(), INDEX_FILE)
+                .storeDocuments()
+                .persistTermFilter()
+                .skipNearDuplicates();
+        if (live) {
+            engine.live();
         }
-        System.out.println("词典加载完成，词典大小: " + dictionary.size());
+        engine.open(DATA_DIR, DICTIONARY_FILE);
+        return engine;
     }
 
     private static void searchOnline() throws IOException {
-        loadIndexFromFile();
         Scanner scanner = new Scanner(System.in, "UTF-8");
         while (true) {
-            System.out.println("请输入要搜索的关键词（多个词用空格分隔，输入 'exit' 退出）：");
-            String input = scanner.nextLine().trim().toLowerCase();
-            if (input.equals("exit")) break;
+            System.out.println("请输入要搜索的关键词（多个词用空格分隔，支持 AND/OR/NOT 和括号，输入 'exit' 退出）：");
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("exit")) break;
             if (input.isEmpty()) continue;
 
-            List<String> keywords = segmentText(input);
-            if (keywords.isEmpty()) {
-                System.out.println("请输入有效关键词");
-                continue;
-            }
-
-            // 1. 搜索功能
-            boolean allKeywordsExist = keywords.stream().allMatch(invertedIndex::containsKey);
-            if (!allKeywordsExist) {
-                System.out.println("未找到匹配文档");
-            } else {
-                List<Set<String>> documentSets = keywords.stream()
-                        .map(keyword -> new HashSet<>(invertedIndex.get(keyword)))
-                        .collect(Collectors.toList());
-                Set<String> result = documentSets.stream()
-                        .reduce((set1, set2) -> {
-                            set1.retainAll(set2);
-                            return set1;
-                        })
-                        .orElse(Collections.emptySet());
+            SegmentedIndex.Snapshot snapshot = engine.index().acquire();
+            try {
+                // 1. 搜索功能
+                Map<String, Double> result;
+                try {
+                    result = scorer.score(engine, snapshot, input);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("查询语法错误：" + e.getMessage());
+                    continue;
+                }
+                if (result == null) {
+                    System.out.println("请输入有效关键词");
+                    continue;
+                }
+                List<String> keywords = scorer.terms(engine, input);
                 if (result.isEmpty()) {
                     System.out.println("未找到匹配文档");
                 } else {
                     System.out.println("找到以下匹配文档：");
-                    result.forEach(doc -> System.out.println(doc + ".txt"));
-                }
-            }
-
-            // 2. Bigram 预测功能
-            String lastWord = keywords.get(keywords.size() - 1);
-            System.out.println("根据 bigram 模型预测的下一个词：");
-            predictNextWords(lastWord, TOP_N_PREDICTIONS);
-        }
-        scanner.close();
-    }
-
-    private static void preprocessDocuments() throws IOException {
-        File dir = new File(DATA_DIR);
-        if (!dir.exists()) {
-            System.out.println("文档目录不存在：" + DATA_DIR);
-            return;
-        }
-        File[] files = dir.listFiles((d, name) ->
-                name.endsWith(".txt") &&
-                        !name.equals(DICTIONARY_FILE) &&
-                        !name.equals(INDEX_FILE));
-        if (files == null || files.length == 0) {
-            System.out.println("没有找到任何 .txt 文件！");
-            return;
-        }
-        for (File file : files) {
-            String docID = file.getName().replace(".txt", "");
-            String content = readFileContent(file);
-            indexDocument(docID, content);
-        }
-        saveIndexToFile();
-    }
-
-    private static String readFileContent(File file) throws IOException {
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append(" ");
-            }
-        }
-        return content.toString().trim();
-    }
-
-    private static void indexDocument(String docID, String content) {
-        List<String> words = segmentText(content);
-        for (int i = 0; i < words.size(); i++) {
-            String word = words.get(i);
-            invertedIndex.computeIfAbsent(word, k -> new ArrayList<>()).add(docID);
-
-            // Bigram 统计
-            unigramCounts.put(word, unigramCounts.getOrDefault(word, 0) + 1);
-            if (i < words.size() - 1) {
-                String next = words.get(i + 1);
-                bigramCounts.computeIfAbsent(word, k -> new HashMap<>());
-                Map<String, Integer> nextMap = bigramCounts.get(word);
-                nextMap.put(next, nextMap.getOrDefault(next, 0) + 1);
-            }
-        }
-    }
-
-    private static List<String> segmentText(String text) {
-        List<String> words = new ArrayList<>();
-        int len = text.length();
-        int index = 0;
-        while (index < len) {
-            String word = null;
-            char currentChar = text.charAt(index);
-            if (isChinese(currentChar)) {
-                int maxPossibleLength = Math.min(MAX_WORD_LENGTH, len - index);
-                for (int end = index + maxPossibleLength; end > index; end--) {
-                    String sub = text.substring(index, end);
-                    if (dictionary.contains(sub)) {
-                        word = sub;
-                        break;
+                    for (String doc : result.keySet()) {
+                        System.out.println(doc + ".txt");
+                        printSnippet(doc, keywords);
+                        printNearDuplicates(doc);
                     }
                 }
-                if (word != null) {
-                    words.add(word);
-                    index += word.length();
-                    continue;
-                }
-                String singleChar = text.substring(index, index + 1);
-                if (dictionary.contains(singleChar)) {
-                    words.add(singleChar);
-                }
-                index++;
-            } else if (Character.isLetter(currentChar)) {
-                int end = index;
-                while (end < len && Character.isLetter(text.charAt(end))) {
-                    end++;
-                }
-                word = text.substring(index, end).toLowerCase();
-                words.add(word);
-                index = end;
-            } else {
-                index++;
+
+                // 2. Bigram 预测功能
+                if (keywords.isEmpty()) continue;
+                String lastWord = keywords.get(keywords.size() - 1);
+                System.out.println("根据 bigram 模型预测的下一个词：");
+                predictNextWords(snapshot, lastWord, TOP_N_PREDICTIONS);
+            } finally {
+                snapshot.release();
             }
         }
-        return words;
-    }
-
-    private static boolean isChinese(char c) {
-        Character.UnicodeBlock ub = Character.UnicodeBlock.of(c);
-        return ub == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
-                || ub == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS
-                || ub == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
-                || ub == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION
-                || ub == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS;
+        scanner.close();
     }
 
-    private static void saveIndexToFile() throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(INDEX_FILE), StandardCharsets.UTF_8))) {
-            for (Map.Entry<String, List<String>> entry : invertedIndex.entrySet()) {
-                writer.write(entry.getKey() + ":" + String.join(",", entry.getValue()));
-                writer.newLine();
+    private static void printSnippet(String docID, List<String> keywords) {
+        try {
+            String snippet = engine.snippet(docID, keywords);
+            if (snippet != null) {
+                System.out.println("    " + snippet);
             }
+        } catch (IOException e) {
+            System.out.println("    (摘要读取失败：" + e.getMessage() + ")");
         }
     }
 
-    private static void loadIndexFromFile() throws IOException {
-        File file = new File(INDEX_FILE);
-        if (!file.exists()) return;
-        invertedIndex.clear();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                int colonIndex = line.indexOf(':');
-                if (colonIndex == -1) continue;
-                String keyword = line.substring(0, colonIndex);
-                List<String> docs = Arrays.asList(line.substring(colonIndex + 1).split(","));
-                invertedIndex.put(keyword, new ArrayList<>(docs));
-            }
-        }
+    private static void printNearDuplicates(String docID) {
+        List<String> dups = engine.nearDuplicates(docID);
+        if (dups.isEmpty()) return;
+        System.out.println("    近似重复：" + dups.stream().map(d -> d + ".txt").collect(Collectors.joining(", ")));
     }
 
     // Bigram 预测：输出 top n 下一个词
-    private static void predictNextWords(String word, int topN) {
-        if (!bigramCounts.containsKey(word)) {
+    private static void predictNextWords(SegmentedIndex.Snapshot snapshot, String word, int topN) {
+        List<Map.Entry<String, Double>> topPredictions = predictor.predict(snapshot, word, topN);
+        if (topPredictions.isEmpty()) {
             System.out.println("无预测结果（该词未出现在文档中）");
             return;
         }
-        Map<String, Integer> nextWords = bigramCounts.get(word);
-        int total = nextWords.values().stream().mapToInt(i -> i).sum();
-
-        List<Map.Entry<String, Double>> topPredictions = nextWords.entrySet().stream()
-                .map(entry -> new AbstractMap.SimpleEntry<>(entry.getKey(), (double) entry.getValue() / total))
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-                .limit(topN)
-                .collect(Collectors.toList());
-
         for (Map.Entry<String, Double> entry : topPredictions) {
             System.out.printf("%s : %.4f\n", entry.getKey(), entry.getValue());
         }
@@ -0,0 +1,21 @@
+import java.util.*;
+
+// 多词同时命中：输入转小写后分词，全部词都出现的文档命中，得分均为 1。
+// 不解析 AND/OR/NOT 和括号，它们按普通词处理
+public class AndScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        List<String> words = terms(engine, query);
+        if (words.isEmpty()) return null;
+        List<BooleanQuery> clauses = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(words)) {
+            clauses.add(new BooleanQuery.Term(word));
+        }
+        BooleanQuery parsed = clauses.size() == 1 ? clauses.get(0) : new BooleanQuery.And(clauses);
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String doc : snapshot.search(parsed)) {
+            result.put(doc, 1.0);
+        }
+        return result;
+    }
+}
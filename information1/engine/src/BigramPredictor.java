@@ -0,0 +1,16 @@
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Bigram 预测：P(next | word) = count(word, next) / count(word, *)
+public class BigramPredictor implements Predictor {
+    @Override
+    public List<Map.Entry<String, Double>> predict(SegmentedIndex.Snapshot snapshot, String word, int topN) {
+        Map<String, Integer> nextWords = snapshot.nextWords(word);
+        int total = nextWords.values().stream().mapToInt(i -> i).sum();
+        return nextWords.entrySet().stream()
+                .map(entry -> new AbstractMap.SimpleEntry<>(entry.getKey(), (double) entry.getValue() / total))
+                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+                .limit(topN)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,137 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+// 分块 Bloom 过滤器：每个词的全部哈希位落在同一个 64 字节块（一条缓存行）内，
+// 判断一个词是否存在只需读一条缓存行。每词约 10 位，误判率约 1%。
+//
+// 文件格式：[MAGIC][块数][词数][哈希数][词集合指纹][块数据...]，小端序，加载时直接内存映射。
+// 指纹用来确认过滤器与当前索引的词集合一致，不一致的过滤器会产生漏判，必须重建
+public class BloomFilter {
+    private static final int MAGIC = 0x424C4D32;
+    private static final int HEADER_BYTES = 24;
+    private static final int BLOCK_BYTES = 64;
+    private static final int BLOCK_BITS = BLOCK_BYTES * 8;
+    private static final int BITS_PER_KEY = 10;
+    private static final int NUM_HASHES = 7;
+
+    private final ByteBuffer data;
+    private final int offset;
+    private final int numBlocks;
+    private final int keyCount;
+    private final long fingerprint;
+
+    private BloomFilter(ByteBuffer data, int offset, int numBlocks, int keyCount, long fingerprint) {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        this.offset = offset;
+        this.numBlocks = numBlocks;
+        this.keyCount = keyCount;
+        this.fingerprint = fingerprint;
+    }
+
+    public static BloomFilter build(Collection<String> terms) {
+        int numBlocks = (int) Math.max(1, ((long) terms.size() * BITS_PER_KEY + BLOCK_BITS - 1) / BLOCK_BITS);
+        BloomFilter filter = new BloomFilter(ByteBuffer.allocate(numBlocks * BLOCK_BYTES), 0, numBlocks,
+                terms.size(), fingerprint(terms));
+        for (String term : terms) {
+            filter.add(term);
+        }
+        return filter;
+    }
+
+    public static BloomFilter map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.limit() < HEADER_BYTES || buf.getInt(0) != MAGIC || buf.getInt(12) != NUM_HASHES) {
+                throw new IOException("不是有效的 Bloom 过滤器文件：" + file);
+            }
+            int numBlocks = buf.getInt(4);
+            if (buf.limit() != HEADER_BYTES + (long) numBlocks * BLOCK_BYTES) {
+                throw new IOException("Bloom 过滤器文件长度不符：" + file);
+            }
+            return new BloomFilter(buf, HEADER_BYTES, numBlocks, buf.getInt(8), buf.getLong(16));
+        }
+    }
+
+    public void write(File file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(numBlocks).putInt(keyCount).putInt(NUM_HASHES).putLong(fingerprint).flip();
+        ByteBuffer body = data.duplicate();
+        body.position(offset).limit(offset + numBlocks * BLOCK_BYTES);
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+        }
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    // 词集合指纹：各词哈希之和，与遍历顺序无关，不需要排序
+    public static long fingerprint(Collection<String> terms) {
+        long sum = terms.size();
+        for (String term : terms) {
+            sum += hash(term);
+        }
+        return sum;
+    }
+
+    public boolean mightContain(String term) {
+        long h = hash(term);
+        int base = blockOffset(h);
+        int h2 = (int) h;
+        int delta = (h2 >>> 17) | (h2 << 15);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = h2 & (BLOCK_BITS - 1);
+            if ((data.getLong(base + (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+            h2 += delta;
+        }
+        return true;
+    }
+
+    private void add(String term) {
+        long h = hash(term);
+        int base = blockOffset(h);
+        int h2 = (int) h;
+        int delta = (h2 >>> 17) | (h2 << 15);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = h2 & (BLOCK_BITS - 1);
+            int pos = base + (bit >>> 6) * 8;
+            data.putLong(pos, data.getLong(pos) | (1L << bit));
+            h2 += delta;
+        }
+    }
+
+    // 高 32 位决定块号，低 32 位决定块内各位
+    private int blockOffset(long h) {
+        return offset + (int) (((h >>> 32) * numBlocks) >>> 32) * BLOCK_BYTES;
+    }
+
+    // 不依赖 String.hashCode，保证文件跨版本、跨进程可用；SimHash 也使用这个哈希
+    static long hash(String term) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < term.length(); i++) {
+            h ^= term.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
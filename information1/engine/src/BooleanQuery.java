@@ -0,0 +1,195 @@
+import java.util.*;
+import java.util.function.Function;
+
+// 布尔查询语法：AND / OR / NOT（须大写）与括号，相邻的词默认为 AND，OR 优先级最低。
+// 例：太阳 (升起 OR 落下) NOT 朋友
+public abstract class BooleanQuery {
+
+    public static final class Term extends BooleanQuery {
+        final String text;
+
+        Term(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    public static final class And extends BooleanQuery {
+        final List<BooleanQuery> clauses;
+
+        And(List<BooleanQuery> clauses) {
+            this.clauses = clauses;
+        }
+
+        @Override
+        public String toString() {
+            return join(clauses, " AND ");
+        }
+    }
+
+    public static final class Or extends BooleanQuery {
+        final List<BooleanQuery> clauses;
+
+        Or(List<BooleanQuery> clauses) {
+            this.clauses = clauses;
+        }
+
+        @Override
+        public String toString() {
+            return join(clauses, " OR ");
+        }
+    }
+
+    public static final class Not extends BooleanQuery {
+        final BooleanQuery clause;
+
+        Not(BooleanQuery clause) {
+            this.clause = clause;
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + clause;
+        }
+    }
+
+    // 按出现顺序收集非 NOT 分支中的词，用于摘要高亮和 bigram 预测
+    public List<String> positiveTerms() {
+        List<String> terms = new ArrayList<>();
+        collect(this, terms);
+        return terms;
+    }
+
+    private static void collect(BooleanQuery q, List<String> out) {
+        if (q instanceof Term) {
+            out.add(((Term) q).text);
+        } else if (q instanceof And) {
+            ((And) q).clauses.forEach(c -> collect(c, out));
+        } else if (q instanceof Or) {
+            ((Or) q).clauses.forEach(c -> collect(c, out));
+        }
+    }
+
+    private static String join(List<BooleanQuery> clauses, String op) {
+        StringJoiner sj = new StringJoiner(op, "(", ")");
+        clauses.forEach(c -> sj.add(c.toString()));
+        return sj.toString();
+    }
+
+    // segmenter 把一个词元切成索引词，切出多个词时按 AND 处理，切不出词的词元被忽略。
+    // 整个查询都被忽略时返回 null。
+    public static BooleanQuery parse(String input, Function<String, List<String>> segmenter) {
+        Parser parser = new Parser(tokenize(input), segmenter);
+        BooleanQuery query = parser.parseOr();
+        if (parser.pos < parser.tokens.size()) {
+            throw new IllegalArgumentException("多余的 \"" + parser.tokens.get(parser.pos) + "\"");
+        }
+        return query;
+    }
+
+    private static List<String> tokenize(String input) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        final List<String> tokens;
+        final Function<String, List<String>> segmenter;
+        int pos;
+
+        Parser(List<String> tokens, Function<String, List<String>> segmenter) {
+            this.tokens = tokens;
+            this.segmenter = segmenter;
+        }
+
+        BooleanQuery parseOr() {
+            List<BooleanQuery> clauses = new ArrayList<>();
+            add(clauses, parseAnd());
+            while (accept("OR")) {
+                add(clauses, parseAnd());
+            }
+            return combine(clauses, false);
+        }
+
+        BooleanQuery parseAnd() {
+            List<BooleanQuery> clauses = new ArrayList<>();
+            add(clauses, parseUnary());
+            while (pos < tokens.size() && !peek("OR") && !peek(")")) {
+                accept("AND");
+                add(clauses, parseUnary());
+            }
+            return combine(clauses, true);
+        }
+
+        BooleanQuery parseUnary() {
+            if (pos >= tokens.size()) {
+                throw new IllegalArgumentException("查询不完整");
+            }
+            if (accept("NOT")) {
+                BooleanQuery clause = parseUnary();
+                return clause == null ? null : new Not(clause);
+            }
+            if (accept("(")) {
+                BooleanQuery inner = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("缺少右括号");
+                }
+                return inner;
+            }
+            String token = tokens.get(pos);
+            if (token.equals(")") || token.equals("AND") || token.equals("OR")) {
+                throw new IllegalArgumentException("此处不应出现 \"" + token + "\"");
+            }
+            pos++;
+            List<BooleanQuery> words = new ArrayList<>();
+            for (String word : segmenter.apply(token.toLowerCase())) {
+                words.add(new Term(word));
+            }
+            return combine(words, true);
+        }
+
+        private static void add(List<BooleanQuery> clauses, BooleanQuery clause) {
+            if (clause != null) clauses.add(clause);
+        }
+
+        private static BooleanQuery combine(List<BooleanQuery> clauses, boolean and) {
+            if (clauses.isEmpty()) return null;
+            if (clauses.size() == 1) return clauses.get(0);
+            return and ? new And(clauses) : new Or(clauses);
+        }
+
+        private boolean peek(String token) {
+            return pos < tokens.size() && tokens.get(pos).equals(token);
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
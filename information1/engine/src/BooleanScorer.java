@@ -0,0 +1,25 @@
+import java.util.*;
+
+// 布尔检索（AND/OR/NOT、括号，空格分隔的词默认全部命中），命中文档得分均为 1
+public class BooleanScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        BooleanQuery parsed = BooleanQuery.parse(query, engine.segmenter()::segment);
+        if (parsed == null) return null;
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String doc : snapshot.search(parsed)) {
+            result.put(doc, 1.0);
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> terms(Engine engine, String query) {
+        try {
+            BooleanQuery parsed = BooleanQuery.parse(query, engine.segmenter()::segment);
+            return parsed == null ? Collections.emptyList() : parsed.positiveTerms();
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+}
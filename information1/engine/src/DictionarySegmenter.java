@@ -0,0 +1,80 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// 中文按词典正向最大匹配（未登录的单字若不在词典中则丢弃），英文按连续字母切分并转小写
+public class DictionarySegmenter implements Segmenter {
+    private static final int MAX_WORD_LENGTH = 6;
+
+    private final Set<String> dictionary;
+
+    public DictionarySegmenter(Set<String> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    // 词典文件不存在时返回空词典的分词器
+    public static DictionarySegmenter load(File file) throws IOException {
+        Set<String> dictionary = new HashSet<>();
+        if (!file.exists()) return new DictionarySegmenter(dictionary);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                dictionary.add(line.trim());
+            }
+        }
+        System.out.println("词典加载完成，词典大小: " + dictionary.size());
+        return new DictionarySegmenter(dictionary);
+    }
+
+    @Override
+    public List<String> segment(String text) {
+        List<String> words = new ArrayList<>();
+        int len = text.length();
+        int index = 0;
+        while (index < len) {
+            String word = null;
+            char currentChar = text.charAt(index);
+            if (isChinese(currentChar)) {
+                int maxPossibleLength = Math.min(MAX_WORD_LENGTH, len - index);
+                for (int end = index + maxPossibleLength; end > index; end--) {
+                    String sub = text.substring(index, end);
+                    if (dictionary.contains(sub)) {
+                        word = sub;
+                        break;
+                    }
+                }
+                if (word != null) {
+                    words.add(word);
+                    index += word.length();
+                    continue;
+                }
+                String singleChar = text.substring(index, index + 1);
+                if (dictionary.contains(singleChar)) {
+                    words.add(singleChar);
+                }
+                index++;
+            } else if (Character.isLetter(currentChar)) {
+                int end = index;
+                while (end < len && Character.isLetter(text.charAt(end))) {
+                    end++;
+                }
+                word = text.substring(index, end).toLowerCase();
+                words.add(word);
+                index = end;
+            } else {
+                index++;
+            }
+        }
+        return words;
+    }
+
+    private static boolean isChinese(char c) {
+        Character.UnicodeBlock ub = Character.UnicodeBlock.of(c);
+        return ub == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || ub == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS
+                || ub == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || ub == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION
+                || ub == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS;
+    }
+}
@@ -0,0 +1,237 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// 文档原文存储：多篇文档拼成 32KB～64KB 的数据块，按 LZ4 压缩后顺序写入，
+// 文件末尾是块偏移表和文档位置表。超过 64KB 的文档拆到连续多块；
+// 读取时只解压目标文档所在的块。
+//
+// 文件格式：[压缩块...][MAGIC][块数][每块: 偏移,压缩长度,原始长度][文档数][每篇: docID,起始块号,块内偏移,长度][目录偏移]
+public class DocumentStore implements Closeable {
+    static final int BLOCK_SIZE = 32 * 1024;
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+    private static final int MAGIC = 0x44535431;
+    private static final int SNIPPET_LENGTH = 80;
+    private static final String HIGHLIGHT_START = "【";
+    private static final String HIGHLIGHT_END = "】";
+
+    private final RandomAccessFile file;
+    private final long[] blockOffsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final Map<String, int[]> docLocations;
+    // 相邻查询结果通常落在同一块，缓存最近解压的一块
+    private int cachedBlock = -1;
+    private byte[] cachedData;
+
+    private DocumentStore(RandomAccessFile file, long[] blockOffsets, int[] compressedLengths,
+                          int[] rawLengths, Map<String, int[]> docLocations) {
+        this.file = file;
+        this.blockOffsets = blockOffsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.docLocations = docLocations;
+    }
+
+    public static DocumentStore open(File path) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(path, "r");
+        try {
+            raf.seek(raf.length() - 8);
+            long directoryOffset = raf.readLong();
+            raf.seek(directoryOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(raf.getFD())));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的文档存储文件：" + path);
+            }
+            int blockCount = in.readInt();
+            long[] offsets = new long[blockCount];
+            int[] compressed = new int[blockCount];
+            int[] raw = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = in.readLong();
+                compressed[i] = in.readInt();
+                raw[i] = in.readInt();
+            }
+            int docCount = in.readInt();
+            Map<String, int[]> locations = new HashMap<>(docCount * 2);
+            for (int i = 0; i < docCount; i++) {
+                String docID = in.readUTF();
+                locations.put(docID, new int[]{in.readInt(), in.readInt(), in.readInt()});
+            }
+            return new DocumentStore(raf, offsets, compressed, raw, locations);
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    public boolean contains(String docID) {
+        return docLocations.containsKey(docID);
+    }
+
+    public synchronized String getDocument(String docID) throws IOException {
+        int[] loc = docLocations.get(docID);
+        if (loc == null) return null;
+        // 空文档可能指向尚未写出的块
+        if (loc[2] == 0) return "";
+        byte[] block = readBlock(loc[0]);
+        if (loc[1] + loc[2] <= block.length) {
+            return new String(block, loc[1], loc[2], StandardCharsets.UTF_8);
+        }
+        // 跨块文档：从起始块的偏移处起依次拼接后续各块
+        byte[] bytes = new byte[loc[2]];
+        int n = block.length - loc[1];
+        System.arraycopy(block, loc[1], bytes, 0, n);
+        for (int b = loc[0] + 1; n < bytes.length; b++) {
+            block = readBlock(b);
+            int len = Math.min(block.length, bytes.length - n);
+            System.arraycopy(block, 0, bytes, n, len);
+            n += len;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 返回 text 中包含最多查询词的一段，查询词用【】标出；无命中时返回开头
+    public static String highlight(String text, Collection<String> terms) {
+        // 长词优先，避免短词抢先命中长词的前缀
+        Set<String> unique = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (!term.isEmpty()) unique.add(term.toLowerCase());
+        }
+        List<String> ordered = new ArrayList<>(unique);
+        ordered.sort((a, b) -> b.length() - a.length());
+        // {起点, 终点, 词序号}，命中互不重叠，起点和终点都递增
+        List<int[]> hits = new ArrayList<>();
+        for (int i = 0; i < text.length(); i++) {
+            for (int t = 0; t < ordered.size(); t++) {
+                String term = ordered.get(t);
+                if (text.regionMatches(true, i, term, 0, term.length())) {
+                    hits.add(new int[]{i, i + term.length(), t});
+                    i += term.length() - 1;
+                    break;
+                }
+            }
+        }
+
+        // 以每个命中前 SNIPPET_LENGTH / 4 处为窗口起点，双指针维护窗口内各词的命中次数，
+        // 取覆盖不同查询词最多的窗口
+        int start = 0;
+        int best = -1;
+        int[] counts = new int[ordered.size()];
+        int distinct = 0;
+        int lo = 0;
+        int hi = 0;
+        for (int[] hit : hits) {
+            int from = Math.max(0, hit[0] - SNIPPET_LENGTH / 4);
+            while (lo < hits.size() && hits.get(lo)[0] < from) {
+                if (lo < hi && --counts[hits.get(lo)[2]] == 0) distinct--;
+                lo++;
+            }
+            hi = Math.max(hi, lo);
+            while (hi < hits.size() && hits.get(hi)[1] <= from + SNIPPET_LENGTH) {
+                if (counts[hits.get(hi)[2]]++ == 0) distinct++;
+                hi++;
+            }
+            if (distinct > best) {
+                best = distinct;
+                start = from;
+            }
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+
+        StringBuilder sb = new StringBuilder();
+        if (start > 0) sb.append("...");
+        int pos = start;
+        for (int[] hit : hits) {
+            if (hit[0] < pos || hit[1] > end) continue;
+            sb.append(text, pos, hit[0])
+                    .append(HIGHLIGHT_START).append(text, hit[0], hit[1]).append(HIGHLIGHT_END);
+            pos = hit[1];
+        }
+        sb.append(text, pos, end);
+        if (end < text.length()) sb.append("...");
+        return sb.toString();
+    }
+
+    private byte[] readBlock(int block) throws IOException {
+        if (block == cachedBlock) return cachedData;
+        byte[] compressed = new byte[compressedLengths[block]];
+        file.seek(blockOffsets[block]);
+        file.readFully(compressed);
+        cachedData = Lz4Block.decompress(compressed, rawLengths[block]);
+        cachedBlock = block;
+        return cachedData;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream(MAX_BLOCK_SIZE);
+        private final List<long[]> blocks = new ArrayList<>();
+        private final Map<String, int[]> docLocations = new LinkedHashMap<>();
+        private long position;
+
+        public Writer(File path) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        }
+
+        public void addDocument(String docID, String content) throws IOException {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            // 放不下时先结束当前块，小文档不会和大文档挤在同一块里
+            if (block.size() > 0 && block.size() + bytes.length > MAX_BLOCK_SIZE) {
+                flushBlock();
+            }
+            docLocations.put(docID, new int[]{blocks.size(), block.size(), bytes.length});
+            for (int off = 0; off < bytes.length; ) {
+                int n = Math.min(bytes.length - off, MAX_BLOCK_SIZE - block.size());
+                block.write(bytes, off, n);
+                off += n;
+                if (block.size() >= MAX_BLOCK_SIZE) {
+                    flushBlock();
+                }
+            }
+            if (block.size() >= BLOCK_SIZE) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (block.size() == 0) return;
+            byte[] compressed = Lz4Block.compress(block.toByteArray(), block.size());
+            out.write(compressed);
+            blocks.add(new long[]{position, compressed.length, block.size()});
+            position += compressed.length;
+            block.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                long directoryOffset = position;
+                out.writeInt(MAGIC);
+                out.writeInt(blocks.size());
+                for (long[] b : blocks) {
+                    out.writeLong(b[0]);
+                    out.writeInt((int) b[1]);
+                    out.writeInt((int) b[2]);
+                }
+                out.writeInt(docLocations.size());
+                for (Map.Entry<String, int[]> entry : docLocations.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    for (int v : entry.getValue()) {
+                        out.writeInt(v);
+                    }
+                }
+                out.writeLong(directoryOffset);
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
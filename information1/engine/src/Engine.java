@@ -0,0 +1,305 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 各查询模块共用的检索核心：一次建索引/加载，多种查询策略（Scorer、Predictor）共享同一个段式索引。
+// 分词（Segmenter）和倒排表文件格式（PostingsFormat）可替换。
+//
+// 可选的附属文件，与倒排表文件放在同一目录：index.bloom（词项 Bloom 过滤器，persistTermFilter()）、
+// docstore.dat（压缩原文，用于摘要，storeDocuments()）。未开启时过滤器在内存中构建，不保存原文
+public class Engine {
+    private static final String BLOOM_FILE = "index.bloom";
+    private static final String STORE_FILE = "docstore.dat";
+
+    private final Segmenter segmenter;
+    private final PostingsFormat postingsFormat;
+    private final File indexFile;
+    private final File bloomFile;
+    private final File storeFile;
+    // 查询只通过快照访问，实时模式下 LiveIndexer 并发追加段
+    private final SegmentedIndex index = new SegmentedIndex();
+
+    // 建索引阶段使用，load() 后转为 index 中的第一个段
+    private Map<String, List<String>> invertedIndex = new HashMap<>();
+    private Map<String, Map<String, Integer>> bigramCounts = new HashMap<>();
+    private Map<String, Integer> unigramCounts = new HashMap<>();
+    // 开启 live() 时，build() 中已建索引文档的分词结果和读过的全部文件的修改时间，
+    // startLive() 交给 LiveIndexer 后清空
+    private final Map<String, List<String>> builtWords = new HashMap<>();
+    private final Map<String, Long> builtModified = new HashMap<>();
+    // 规范文档 -> 被归入其下、未单独建索引的近似重复文档。
+    // 实时模式下列表只整体替换、不原地修改，查询线程可直接遍历
+    private final Map<String, List<String>> nearDuplicates = new ConcurrentHashMap<>();
+    // indexDocuments() 传入的文档原文，以及实时索引读入的新原文；查原文和摘要时优先于文档存储
+    private final Map<String, String> memoryTexts = new ConcurrentHashMap<>();
+    private DocumentStore documentStore;
+    private boolean storeDocuments;
+    private boolean persistTermFilter;
+    // 建索引时是否跳过近似重复文档；跳过的文档只能通过 nearDuplicates() 找到，调用方需自行展示
+    private boolean skipNearDuplicates;
+    private boolean live;
+
+    public Engine(Segmenter segmenter, PostingsFormat postingsFormat, String indexFile) {
+        this.segmenter = segmenter;
+        this.postingsFormat = postingsFormat;
+        this.indexFile = new File(indexFile);
+        this.bloomFile = new File(this.indexFile.getParentFile(), BLOOM_FILE);
+        this.storeFile = new File(this.indexFile.getParentFile(), STORE_FILE);
+    }
+
+    // 只在内存中建索引，不读写任何文件（open()/build() 仍从文档目录读取原文）
+    public Engine(Segmenter segmenter) {
+        this.segmenter = segmenter;
+        this.postingsFormat = null;
+        this.indexFile = null;
+        this.bloomFile = null;
+        this.storeFile = null;
+    }
+
+    public Segmenter segmenter() {
+        return segmenter;
+    }
+
+    public SegmentedIndex index() {
+        return index;
+    }
+
+    // 以下开关需在 build()/open() 之前调用，且只对带索引文件的 Engine 有效
+    public Engine storeDocuments() {
+        this.storeDocuments = indexFile != null;
+        return this;
+    }
+
+    public Engine persistTermFilter() {
+        this.persistTermFilter = indexFile != null;
+        return this;
+    }
+
+    // 之后会调用 startLive()：build() 保留分词结果，实时索引启动时不必重新读取全部文档
+    public Engine live() {
+        this.live = true;
+        return this;
+    }
+
+    public Engine skipNearDuplicates() {
+        this.skipNearDuplicates = true;
+        return this;
+    }
+
+    // build + load，各模块启动时的常规入口
+    public void open(String dataDir, String... excludedNames) throws IOException {
+        build(dataDir, excludedNames);
+        load();
+    }
+
+    // 对 dataDir 下的 .txt 文档（excludedNames 及索引文件本身除外）分词建索引，
+    // 写出倒排表及开启的附属文件
+    public void build(String dataDir, String... excludedNames) throws IOException {
+        Set<String> excluded = new HashSet<>(Arrays.asList(excludedNames));
+        File dir = new File(dataDir);
+        if (!dir.exists()) {
+            System.out.println("文档目录不存在：" + dataDir);
+            return;
+        }
+        File[] files = dir.listFiles((d, name) ->
+                name.endsWith(".txt") &&
+                        !excluded.contains(name) &&
+                        (indexFile == null || !name.equals(indexFile.getName())));
+        if (files == null || files.length == 0) {
+            System.out.println("没有找到任何 .txt 文件！");
+            return;
+        }
+        // 按文件名排序，使规范文档的选择在每次启动时一致
+        Arrays.sort(files);
+        NearDuplicateIndex duplicates = skipNearDuplicates ? new NearDuplicateIndex() : null;
+        try (DocumentStore.Writer store = storeDocuments ? new DocumentStore.Writer(storeFile) : null) {
+            for (File file : files) {
+                String docID = file.getName().replace(".txt", "");
+                // 先记修改时间再读，读取期间发生的修改会在实时模式启动扫描时重新读取
+                if (live) {
+                    builtModified.put(docID, file.lastModified());
+                }
+                String content = readFileContent(file);
+                List<String> words = segmenter.segment(content);
+                String canonical = duplicates == null ? null : duplicates.findOrAdd(docID, words);
+                if (canonical != null) {
+                    nearDuplicates.computeIfAbsent(canonical, k -> new ArrayList<>()).add(docID);
+                    continue;
+                }
+                indexWords(docID, words, invertedIndex, bigramCounts, unigramCounts);
+                if (live) {
+                    builtWords.put(docID, words);
+                }
+                if (store != null) {
+                    store.addDocument(docID, content);
+                }
+            }
+        }
+        if (!nearDuplicates.isEmpty()) {
+            int skipped = nearDuplicates.values().stream().mapToInt(List::size).sum();
+            System.out.println("跳过近似重复文档 " + skipped + " 篇");
+        }
+        if (indexFile == null) return;
+        postingsFormat.write(invertedIndex, indexFile);
+        if (persistTermFilter) {
+            BloomFilter.build(invertedIndex.keySet()).write(bloomFile);
+        }
+    }
+
+    // 读入倒排表和 Bloom 过滤器装入第一个段，并打开文档存储。
+    // bigram 统计不落盘，只有同一进程内先调用过 build() 时才有预测结果
+    public void load() throws IOException {
+        BloomFilter termFilter = null;
+        if (indexFile != null && indexFile.exists()) {
+            try {
+                invertedIndex = postingsFormat.read(indexFile);
+                termFilter = loadTermFilter();
+            } catch (IOException e) {
+                System.out.println("索引文件未找到或读取失败，可能需要重新生成。");
+            }
+        }
+        if (termFilter == null) {
+            termFilter = BloomFilter.build(invertedIndex.keySet());
+        }
+        index.replaceAll(Segment.of(invertedIndex, termFilter, bigramCounts, unigramCounts));
+        if (storeDocuments && storeFile.exists()) {
+            try {
+                documentStore = DocumentStore.open(storeFile);
+            } catch (IOException e) {
+                System.out.println("文档存储读取失败，结果将不显示摘要：" + e.getMessage());
+            }
+        }
+    }
+
+    // 优先映射 build() 写出的过滤器；文件缺失、或词数/词集合指纹与当前索引不符时在内存中重建
+    private BloomFilter loadTermFilter() {
+        if (persistTermFilter && bloomFile.exists()) {
+            try {
+                BloomFilter filter = BloomFilter.map(bloomFile);
+                if (filter.keyCount() == invertedIndex.size()
+                        && filter.fingerprint() == BloomFilter.fingerprint(invertedIndex.keySet())) {
+                    return filter;
+                }
+            } catch (IOException e) {
+                System.out.println("Bloom 过滤器读取失败，将重新生成：" + e.getMessage());
+            }
+        }
+        return BloomFilter.build(invertedIndex.keySet());
+    }
+
+    // docs: docID -> 原文，用单个段替换当前全部内容
+    public void indexDocuments(Map<String, String> docs) {
+        Map<String, List<String>> docWords = new HashMap<>();
+        for (Map.Entry<String, String> entry : docs.entrySet()) {
+            docWords.put(entry.getKey(), segmenter.segment(entry.getValue()));
+        }
+        memoryTexts.clear();
+        memoryTexts.putAll(docs);
+        index.replaceAll(Segment.build(docWords));
+    }
+
+    // 监听 dataDir，新增或修改的文档在刷新间隔内可被搜索到。
+    // 开启了 live() 时，build() 已建索引的文档和跳过的近似重复文档在文件变化前不会被重新读取；
+    // 否则启动时重新读取全部文档
+    public LiveIndexer startLive(String dataDir, String... excludedNames) throws IOException {
+        List<String> excluded = new ArrayList<>(Arrays.asList(excludedNames));
+        if (indexFile != null) {
+            excluded.add(indexFile.getName());
+        }
+        LiveIndexer live = new LiveIndexer(dataDir, index, segmenter, excluded.toArray(new String[0]));
+        live.seed(builtWords, builtModified);
+        builtWords.clear();
+        builtModified.clear();
+        live.onDocumentChanged((docID, content) -> documentChanged(live, docID, content));
+        live.start();
+        return live;
+    }
+
+    // 实时索引读入或删除了 docID（content 为 null 表示删除）
+    private void documentChanged(LiveIndexer live, String docID, String content) {
+        if (content == null) {
+            memoryTexts.remove(docID);
+        } else {
+            memoryTexts.put(docID, content);
+        }
+        // docID 已单独建索引或已删除，不再作为近似重复列出
+        for (String canonical : nearDuplicates.keySet()) {
+            nearDuplicates.computeIfPresent(canonical, (k, dups) -> {
+                if (!dups.contains(docID)) return dups;
+                List<String> rest = new ArrayList<>(dups);
+                rest.remove(docID);
+                return rest.isEmpty() ? null : rest;
+            });
+        }
+        // 规范文档变更或删除后，原先归入其下的文档各自建索引
+        List<String> released = nearDuplicates.remove(docID);
+        if (released != null) {
+            live.reindex(released);
+        }
+    }
+
+    public Map<String, Double> search(Scorer scorer, String query) {
+        SegmentedIndex.Snapshot snapshot = index.acquire();
+        try {
+            return scorer.score(this, snapshot, query);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    public List<Map.Entry<String, Double>> predict(Predictor predictor, String word, int topN) {
+        SegmentedIndex.Snapshot snapshot = index.acquire();
+        try {
+            return predictor.predict(snapshot, word, topN);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    // 文档不存在或未保存原文时返回 null
+    public String documentText(String docID) throws IOException {
+        String text = memoryTexts.get(docID);
+        if (text != null || documentStore == null) return text;
+        return documentStore.getDocument(docID);
+    }
+
+    // 没有保存原文时返回 null
+    public String snippet(String docID, Collection<String> terms) throws IOException {
+        String text = documentText(docID);
+        return text == null ? null : DocumentStore.highlight(text, terms);
+    }
+
+    public List<String> nearDuplicates(String docID) {
+        return nearDuplicates.getOrDefault(docID, Collections.emptyList());
+    }
+
+    public static String readFileContent(File file) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                content.append(line).append(" ");
+            }
+        }
+        return content.toString().trim();
+    }
+
+    static void indexWords(String docID, List<String> words, Map<String, List<String>> index,
+                           Map<String, Map<String, Integer>> bigrams, Map<String, Integer> unigrams) {
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            index.computeIfAbsent(word, k -> new ArrayList<>()).add(docID);
+
+            // Bigram 统计
+            unigrams.put(word, unigrams.getOrDefault(word, 0) + 1);
+            if (i < words.size() - 1) {
+                String next = words.get(i + 1);
+                bigrams.computeIfAbsent(word, k -> new HashMap<>());
+                Map<String, Integer> nextMap = bigrams.get(word);
+                nextMap.put(next, nextMap.getOrDefault(next, 0) + 1);
+            }
+        }
+    }
+}
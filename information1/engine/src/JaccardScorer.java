@@ -0,0 +1,15 @@
+import java.util.*;
+
+// Jaccard 相似度：查询词集合与文档词集合的交集大小 / 并集大小，按得分从高到低排列
+public class JaccardScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        List<String> keywords = terms(engine, query);
+        if (keywords.isEmpty()) return null;
+        Map<String, Double> result = new LinkedHashMap<>();
+        snapshot.jaccard(keywords).entrySet().stream()
+                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+}
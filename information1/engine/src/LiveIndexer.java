@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+// 实时索引：监听 DATA_DIR，异步读取新增/修改的文档，在后台线程分词建索引，
+// 并按固定刷新间隔把本轮变更的文档作为一个新段追加到 SegmentedIndex
+public class LiveIndexer {
+    private static final long REFRESH_INTERVAL_MS = 1000;
+    private static final int MAX_PENDING_FILES = 64;
+    // 段数超过该值时把全部文档重建为一个段，顺带清掉旧段中被覆盖文档的 bigram 统计
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Path dataDir;
+    private final SegmentedIndex index;
+    private final Segmenter segmenter;
+    private final Set<String> excludedNames;
+    private final Map<String, List<String>> docWords = new ConcurrentHashMap<>();
+    // seed() 传入的建索引时各文件修改时间；扫描时未变化的文件不再读取，提交过一次后移除
+    private final Map<String, Long> knownModified = new ConcurrentHashMap<>();
+    // 文档被读入（content 为原文）或删除（content 为 null）时回调，在建索引线程或监听线程上执行
+    // 每篇文档的版本号，每次提交读取或删除时加一。异步读取可能乱序完成或晚于删除，
+    // 只有版本号仍是提交时那个的结果才会发布
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    // 保证“检查版本号 + 发布/删除”整体原子
+    private final Object publishLock = new Object();
+    private volatile BiConsumer<String, String> listener = (docID, content) -> { };
+    // 上次刷新后新增、修改或删除的文档
+    private final Set<String> changedDocs = ConcurrentHashMap.newKeySet();
+    // 读取中 + 等待分词的文件数上限，入库速度超过建索引速度时阻塞监听线程
+    private final Semaphore pending = new Semaphore(MAX_PENDING_FILES);
+    private final ExecutorService indexExecutor;
+    private final ScheduledExecutorService refresher;
+    private volatile boolean running;
+    private Thread watchThread;
+
+    public LiveIndexer(String dataDir, SegmentedIndex index, Segmenter segmenter, String... excludedNames) {
+        this.dataDir = Paths.get(dataDir);
+        this.index = index;
+        this.segmenter = segmenter;
+        this.excludedNames = new HashSet<>(Arrays.asList(excludedNames));
+        this.indexExecutor = Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), daemon("live-index"));
+        this.refresher = Executors.newSingleThreadScheduledExecutor(daemon("live-refresh"));
+    }
+
+    // 用 build() 的结果初始化，需在 start() 之前调用。words 为已建索引文档的分词结果，
+    // modified 为建索引时读过的全部文件（包括被跳过的近似重复）的修改时间
+    public void seed(Map<String, List<String>> words, Map<String, Long> modified) {
+        docWords.putAll(words);
+        knownModified.putAll(modified);
+    }
+
+    public void onDocumentChanged(BiConsumer<String, String> listener) {
+        this.listener = listener;
+    }
+
+    // 重新读取并索引指定文档，例如其规范文档变更后它们不再视为近似重复
+    public void reindex(Collection<String> docIDs) {
+        try {
+            refresher.execute(() -> {
+                try {
+                    for (String docID : docIDs) {
+                        Path file = dataDir.resolve(docID + ".txt");
+                        if (Files.exists(file)) {
+                            submit(file);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // 已停止
+        }
+    }
+
+    public void start() throws IOException {
+        WatchService watcher = FileSystems.getDefault().newWatchService();
+        dataDir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        running = true;
+
+        // 先注册监听再扫描已有文件，避免两者之间新增的文件被漏掉
+        try {
+            rescan();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        refresher.scheduleWithFixedDelay(this::refresh,
+                REFRESH_INTERVAL_MS, REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        watchThread = daemon("live-watch").newThread(() -> watchLoop(watcher));
+        watchThread.start();
+        System.out.println("实时索引已启动，监听目录：" + dataDir);
+    }
+
+    public void stop() {
+        running = false;
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+        refresher.shutdownNow();
+        indexExecutor.shutdownNow();
+    }
+
+    private void watchLoop(WatchService watcher) {
+        try (WatchService ws = watcher) {
+            while (running) {
+                WatchKey key = ws.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan();
+                        continue;
+                    }
+                    Path file = dataDir.resolve((Path) event.context());
+                    if (!accept(file)) continue;
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        removeDocument(docID(file));
+                    } else {
+                        submit(file);
+                    }
+                }
+                if (!key.reset()) {
+                    System.out.println("文档目录已不可访问，实时索引停止：" + dataDir);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("监听目录失败：" + e.getMessage());
+        }
+    }
+
+    // 提交修改时间与 seed() 不同的文件，并移除目录中已不存在的文档
+    private void rescan() throws IOException, InterruptedException {
+        Set<String> present = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataDir)) {
+            for (Path file : stream) {
+                if (!accept(file)) continue;
+                String docID = docID(file);
+                present.add(docID);
+                Long known = knownModified.get(docID);
+                if (known == null || known != Files.getLastModifiedTime(file).toMillis()) {
+                    submit(file);
+                }
+            }
+        }
+        Set<String> gone = new HashSet<>(docWords.keySet());
+        gone.addAll(knownModified.keySet());
+        gone.removeAll(present);
+        for (String docID : gone) {
+            removeDocument(docID);
+        }
+    }
+
+    private void removeDocument(String docID) {
+        knownModified.remove(docID);
+        synchronized (publishLock) {
+            generations.merge(docID, 1L, Long::sum);
+            if (docWords.remove(docID) != null) {
+                changedDocs.add(docID);
+            }
+            listener.accept(docID, null);
+        }
+    }
+
+    private boolean accept(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".txt") && !excludedNames.contains(name);
+    }
+
+    private static String docID(Path file) {
+        return file.getFileName().toString().replace(".txt", "");
+    }
+
+    private void submit(Path file) throws InterruptedException {
+        String docID = docID(file);
+        knownModified.remove(docID);
+        long generation = generations.merge(docID, 1L, Long::sum);
+        pending.acquire();
+        AsynchronousFileChannel channel;
+        ByteBuffer buffer;
+        try {
+            channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                channel.close();
+                System.out.println("文件过大，跳过：" + file);
+                pending.release();
+                return;
+            }
+            buffer = ByteBuffer.allocate((int) size);
+        } catch (IOException e) {
+            // 文件在事件到达前被删除或仍被占用，下一次 MODIFY 事件会重新提交
+            pending.release();
+            return;
+        }
+        channel.read(buffer, 0, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+            @Override
+            public void completed(Integer read, ByteBuffer buf) {
+                if (read >= 0 && buf.hasRemaining()) {
+                    channel.read(buf, buf.position(), buf, this);
+                    return;
+                }
+                closeQuietly(channel);
+                buf.flip();
+                try {
+                    indexExecutor.execute(() -> {
+                        try {
+                            indexDocument(docID, generation, StandardCharsets.UTF_8.decode(buf).toString());
+                        } finally {
+                            pending.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    pending.release();
+                }
+            }
+
+            @Override
+            public void failed(Throwable exc, ByteBuffer buf) {
+                closeQuietly(channel);
+                pending.release();
+            }
+        });
+    }
+
+    private void indexDocument(String docID, long generation, String raw) {
+        if (generations.get(docID) != generation) return;
+        // 与 readFileContent 保持一致：按行拼接、空格分隔
+        String content = String.join(" ", raw.split("\\r?\\n|\\r")).trim();
+        List<String> words = segmenter.segment(content);
+        synchronized (publishLock) {
+            // 读取期间文件又被修改或删除，丢弃这次结果
+            if (generations.get(docID) != generation) return;
+            docWords.put(docID, words);
+            changedDocs.add(docID);
+            listener.accept(docID, content);
+        }
+    }
+
+    // 在定时线程上执行，异常若抛出会取消之后所有刷新，因此在这里捕获并把本轮文档留到下次重试
+    private void refresh() {
+        if (changedDocs.isEmpty()) return;
+        List<String> changed = new ArrayList<>(changedDocs);
+        changedDocs.removeAll(changed);
+
+        try {
+            if (index.segmentCount() >= MAX_SEGMENTS) {
+                index.replaceAll(Segment.build(new HashMap<>(docWords)));
+                return;
+            }
+            Map<String, List<String>> batch = new HashMap<>();
+            for (String docID : changed) {
+                List<String> words = docWords.get(docID);
+                if (words != null) {
+                    batch.put(docID, words);
+                }
+            }
+            index.addSegment(Segment.build(batch), changed);
+        } catch (RuntimeException e) {
+            changedDocs.addAll(changed);
+            System.out.println("刷新索引失败，将在下次刷新时重试：" + e);
+        }
+    }
+
+    private static void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
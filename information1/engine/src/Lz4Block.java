@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+// LZ4 块格式的最小实现：贪心哈希匹配，窗口 64KB，只用于文档存储的数据块
+final class Lz4Block {
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 14;
+
+    private Lz4Block() {
+    }
+
+    static byte[] compress(byte[] src, int len) {
+        byte[] dst = new byte[len + len / 255 + 16];
+        int[] table = new int[1 << HASH_LOG];
+        Arrays.fill(table, -1);
+        int anchor = 0;
+        int ip = 0;
+        int op = 0;
+        while (ip < len - MF_LIMIT) {
+            int seq = readInt(src, ip);
+            int h = (seq * -1640531535) >>> (32 - HASH_LOG);
+            int ref = table[h];
+            table[h] = ip;
+            if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != seq) {
+                ip++;
+                continue;
+            }
+            int matchLen = MIN_MATCH;
+            while (ip + matchLen < len - LAST_LITERALS && src[ref + matchLen] == src[ip + matchLen]) {
+                matchLen++;
+            }
+            op = writeSequence(dst, op, src, anchor, ip - anchor, ip - ref, matchLen);
+            ip += matchLen;
+            anchor = ip;
+        }
+        op = writeSequence(dst, op, src, anchor, len - anchor, 0, 0);
+        return Arrays.copyOf(dst, op);
+    }
+
+    static byte[] decompress(byte[] src, int rawLength) {
+        byte[] dst = new byte[rawLength];
+        int ip = 0;
+        int op = 0;
+        while (ip < src.length) {
+            int token = src[ip++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    literals += b;
+                } while (b == 255);
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+            if (ip >= src.length) break;
+
+            int offset = (src[ip++] & 0xFF) | ((src[ip++] & 0xFF) << 8);
+            int matchLen = token & 0x0F;
+            if (matchLen == 15) {
+                int b;
+                do {
+                    b = src[ip++] & 0xFF;
+                    matchLen += b;
+                } while (b == 255);
+            }
+            matchLen += MIN_MATCH;
+            // 匹配区可能与输出重叠，必须逐字节复制
+            int ref = op - offset;
+            for (int i = 0; i < matchLen; i++) {
+                dst[op++] = dst[ref++];
+            }
+        }
+        if (op != rawLength) {
+            throw new IllegalStateException("LZ4 数据块长度不符: " + op + " != " + rawLength);
+        }
+        return dst;
+    }
+
+    // matchLen 为 0 表示只写末尾字面量
+    private static int writeSequence(byte[] dst, int op, byte[] src, int litStart, int litLen,
+                                     int offset, int matchLen) {
+        int tokenPos = op++;
+        int token = Math.min(litLen, 15) << 4;
+        if (litLen >= 15) {
+            op = writeLength(dst, op, litLen - 15);
+        }
+        System.arraycopy(src, litStart, dst, op, litLen);
+        op += litLen;
+        if (matchLen > 0) {
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            int extra = matchLen - MIN_MATCH;
+            token |= Math.min(extra, 15);
+            if (extra >= 15) {
+                op = writeLength(dst, op, extra - 15);
+            }
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLength(byte[] dst, int op, int len) {
+        while (len >= 255) {
+            dst[op++] = (byte) 255;
+            len -= 255;
+        }
+        dst[op++] = (byte) len;
+        return op;
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.*;
+
+// 基于 SimHash 的近似重复检测。指纹为 64 位，汉明距离不超过 MAX_DISTANCE 视为近似重复。
+// 指纹按 16 位切成 4 段分别建表：距离不超过 3 时至少有一段完全相同（抽屉原理），
+// 因此只需比较 4 张表中同段取值的候选，而不必与全部已入库文档逐一比较。
+public class NearDuplicateIndex {
+    private static final int MAX_DISTANCE = 3;
+    private static final int BLOCKS = MAX_DISTANCE + 1;
+    private static final int BLOCK_BITS = 64 / BLOCKS;
+    // 词数太少时指纹不稳定，不参与去重
+    private static final int MIN_WORDS = 16;
+
+    private final List<Map<Integer, List<Entry>>> tables = new ArrayList<>();
+
+    private static final class Entry {
+        final long fingerprint;
+        final String docID;
+
+        Entry(long fingerprint, String docID) {
+            this.fingerprint = fingerprint;
+            this.docID = docID;
+        }
+    }
+
+    public NearDuplicateIndex() {
+        for (int i = 0; i < BLOCKS; i++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    // 若已有近似文档则返回其 docID（不登记当前文档），否则登记当前文档并返回 null
+    public String findOrAdd(String docID, List<String> words) {
+        if (words.size() < MIN_WORDS) return null;
+        long fp = simHash(words);
+        for (int b = 0; b < BLOCKS; b++) {
+            List<Entry> candidates = tables.get(b).get(block(fp, b));
+            if (candidates == null) continue;
+            for (Entry e : candidates) {
+                if (Long.bitCount(e.fingerprint ^ fp) <= MAX_DISTANCE) {
+                    return e.docID;
+                }
+            }
+        }
+        Entry entry = new Entry(fp, docID);
+        for (int b = 0; b < BLOCKS; b++) {
+            tables.get(b).computeIfAbsent(block(fp, b), k -> new ArrayList<>()).add(entry);
+        }
+        return null;
+    }
+
+    // 以词频为权重：每个词的 64 位哈希逐位投票，正票多的位置 1
+    static long simHash(List<String> words) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (String w : words) {
+            tf.merge(w, 1, Integer::sum);
+        }
+        int[] votes = new int[64];
+        for (Map.Entry<String, Integer> entry : tf.entrySet()) {
+            long h = BloomFilter.hash(entry.getKey());
+            int weight = entry.getValue();
+            for (int i = 0; i < 64; i++) {
+                votes[i] += ((h >>> i) & 1) != 0 ? weight : -weight;
+            }
+        }
+        long fp = 0;
+        for (int i = 0; i < 64; i++) {
+            if (votes[i] > 0) fp |= 1L << i;
+        }
+        return fp;
+    }
+
+    private static int block(long fp, int b) {
+        return (int) ((fp >>> (b * BLOCK_BITS)) & ((1L << BLOCK_BITS) - 1));
+    }
+}
@@ -0,0 +1,11 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// 倒排表的持久化格式：词 -> 出现过该词的文档 ID（每次出现记一条）
+public interface PostingsFormat {
+    void write(Map<String, List<String>> invertedIndex, File file) throws IOException;
+
+    Map<String, List<String>> read(File file) throws IOException;
+}
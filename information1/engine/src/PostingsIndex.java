@@ -0,0 +1,96 @@
+import java.util.*;
+
+// 查询用的紧凑倒排表：文档名映射为连续编号，每个词的倒排表为去重后的有序 int 数组。
+// 查词前先过 Bloom 过滤器，不存在的词不访问词表
+public class PostingsIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] docNames;
+    private final Map<String, int[]> postings;
+    // 每篇文档的不同词数，Jaccard 计算并集大小时使用
+    private final int[] docLengths;
+    private final BloomFilter termFilter;
+
+    private PostingsIndex(String[] docNames, Map<String, int[]> postings, int[] docLengths,
+                          BloomFilter termFilter) {
+        this.docNames = docNames;
+        this.postings = postings;
+        this.docLengths = docLengths;
+        this.termFilter = termFilter;
+    }
+
+    public static PostingsIndex build(Map<String, List<String>> invertedIndex) {
+        return build(invertedIndex, BloomFilter.build(invertedIndex.keySet()));
+    }
+
+    // termFilter 必须覆盖 invertedIndex 中的全部词
+    public static PostingsIndex build(Map<String, List<String>> invertedIndex, BloomFilter termFilter) {
+        TreeSet<String> names = new TreeSet<>();
+        for (List<String> docs : invertedIndex.values()) {
+            names.addAll(docs);
+        }
+        String[] docNames = names.toArray(new String[0]);
+        Map<String, Integer> ordinals = new HashMap<>(docNames.length * 2);
+        for (int i = 0; i < docNames.length; i++) {
+            ordinals.put(docNames[i], i);
+        }
+
+        Map<String, int[]> postings = new HashMap<>(invertedIndex.size() * 2);
+        int[] docLengths = new int[docNames.length];
+        for (Map.Entry<String, List<String>> entry : invertedIndex.entrySet()) {
+            int[] docs = new int[entry.getValue().size()];
+            int n = 0;
+            for (String doc : entry.getValue()) {
+                docs[n++] = ordinals.get(doc);
+            }
+            Arrays.sort(docs);
+            // 原始倒排表每次出现记一条，这里去重
+            int unique = 0;
+            for (int i = 0; i < n; i++) {
+                if (unique == 0 || docs[unique - 1] != docs[i]) {
+                    docs[unique++] = docs[i];
+                }
+            }
+            for (int i = 0; i < unique; i++) {
+                docLengths[docs[i]]++;
+            }
+            postings.put(entry.getKey(), Arrays.copyOf(docs, unique));
+        }
+        return new PostingsIndex(docNames, postings, docLengths, termFilter);
+    }
+
+    public int docCount() {
+        return docNames.length;
+    }
+
+    public String docName(int doc) {
+        return docNames[doc];
+    }
+
+    public int docLength(int doc) {
+        return docLengths[doc];
+    }
+
+    public Set<String> terms() {
+        return Collections.unmodifiableSet(postings.keySet());
+    }
+
+    // 文档不在本表中时返回负数
+    public int ordinal(String docName) {
+        return Arrays.binarySearch(docNames, docName);
+    }
+
+    public boolean mightContain(String term) {
+        return termFilter.mightContain(term);
+    }
+
+    public int docFreq(String term) {
+        return postings(term).length;
+    }
+
+    public int[] postings(String term) {
+        if (!termFilter.mightContain(term)) return EMPTY;
+        int[] docs = postings.get(term);
+        return docs == null ? EMPTY : docs;
+    }
+}
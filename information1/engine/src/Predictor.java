@@ -0,0 +1,7 @@
+import java.util.List;
+import java.util.Map;
+
+// 下一个词预测策略，返回按概率从高到低排列的至多 topN 个候选词
+public interface Predictor {
+    List<Map.Entry<String, Double>> predict(SegmentedIndex.Snapshot snapshot, String word, int topN);
+}
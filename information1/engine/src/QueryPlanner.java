@@ -0,0 +1,391 @@
+import java.util.*;
+
+// 基于文档频率的布尔查询执行计划：
+// - NOT 下推（双重否定消去，NOT (a OR b) 展开为两个排除项），在 AND 中作为惰性排除迭代器
+// - AND 子句按文档频率从小到大排列，小表驱动跳跃求交；任一子句为空立即返回
+// - 结果估计稠密时 AND/OR 改用位图运算，稀疏时用有序表归并
+public class QueryPlanner {
+    // 估计命中数超过 docCount / DENSE_DIVISOR 时视为稠密
+    private static final int DENSE_DIVISOR = 8;
+
+    private final PostingsIndex index;
+
+    public QueryPlanner(PostingsIndex index) {
+        this.index = index;
+    }
+
+    public List<String> search(BooleanQuery query) {
+        return search(query, null);
+    }
+
+    // deletedDocs 为 null 表示没有已删除文档
+    public List<String> search(BooleanQuery query, BitSet deletedDocs) {
+        List<String> result = new ArrayList<>();
+        DocIterator it = plan(normalize(query));
+        for (int doc = it.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+            if (deletedDocs == null || !deletedDocs.get(doc)) {
+                result.add(index.docName(doc));
+            }
+        }
+        return result;
+    }
+
+    // 展平同类嵌套并把 NOT 尽量下推到词上
+    static BooleanQuery normalize(BooleanQuery q) {
+        if (q instanceof BooleanQuery.And) {
+            List<BooleanQuery> clauses = new ArrayList<>();
+            for (BooleanQuery c : ((BooleanQuery.And) q).clauses) {
+                BooleanQuery n = normalize(c);
+                if (n instanceof BooleanQuery.And) {
+                    clauses.addAll(((BooleanQuery.And) n).clauses);
+                } else {
+                    clauses.add(n);
+                }
+            }
+            return new BooleanQuery.And(clauses);
+        }
+        if (q instanceof BooleanQuery.Or) {
+            List<BooleanQuery> clauses = new ArrayList<>();
+            for (BooleanQuery c : ((BooleanQuery.Or) q).clauses) {
+                BooleanQuery n = normalize(c);
+                if (n instanceof BooleanQuery.Or) {
+                    clauses.addAll(((BooleanQuery.Or) n).clauses);
+                } else {
+                    clauses.add(n);
+                }
+            }
+            return new BooleanQuery.Or(clauses);
+        }
+        if (q instanceof BooleanQuery.Not) {
+            BooleanQuery inner = ((BooleanQuery.Not) q).clause;
+            if (inner instanceof BooleanQuery.Not) {
+                return normalize(((BooleanQuery.Not) inner).clause);
+            }
+            if (inner instanceof BooleanQuery.Or) {
+                List<BooleanQuery> negated = new ArrayList<>();
+                for (BooleanQuery c : ((BooleanQuery.Or) inner).clauses) {
+                    negated.add(new BooleanQuery.Not(c));
+                }
+                return normalize(new BooleanQuery.And(negated));
+            }
+            return new BooleanQuery.Not(normalize(inner));
+        }
+        return q;
+    }
+
+    private DocIterator plan(BooleanQuery q) {
+        if (q instanceof BooleanQuery.Term) {
+            int[] docs = index.postings(((BooleanQuery.Term) q).text);
+            return docs.length == 0 ? DocIterator.empty() : new ArrayIterator(docs);
+        }
+        if (q instanceof BooleanQuery.Not) {
+            return exclude(new AllDocsIterator(index.docCount()), ((BooleanQuery.Not) q).clause);
+        }
+        if (q instanceof BooleanQuery.Or) {
+            return planOr(((BooleanQuery.Or) q).clauses);
+        }
+        return planAnd(((BooleanQuery.And) q).clauses);
+    }
+
+    private DocIterator planAnd(List<BooleanQuery> clauses) {
+        List<BooleanQuery> negatives = new ArrayList<>();
+        List<DocIterator> positives = new ArrayList<>();
+        for (BooleanQuery c : clauses) {
+            if (c instanceof BooleanQuery.Not) {
+                negatives.add(((BooleanQuery.Not) c).clause);
+                continue;
+            }
+            DocIterator it = plan(c);
+            if (it.cost() == 0) {
+                return DocIterator.empty();
+            }
+            positives.add(it);
+        }
+        positives.sort(Comparator.comparingLong(DocIterator::cost));
+
+        DocIterator result;
+        if (positives.isEmpty()) {
+            result = new AllDocsIterator(index.docCount());
+        } else if (positives.size() == 1) {
+            result = positives.get(0);
+        } else if (isDense(positives.get(0).cost())) {
+            BitSet bits = toBitSet(positives.get(0));
+            for (int i = 1; i < positives.size() && !bits.isEmpty(); i++) {
+                bits.and(toBitSet(positives.get(i)));
+            }
+            result = new BitSetIterator(bits);
+        } else {
+            result = new ConjunctionIterator(positives);
+        }
+
+        for (BooleanQuery neg : negatives) {
+            result = exclude(result, neg);
+        }
+        return result;
+    }
+
+    private DocIterator planOr(List<BooleanQuery> clauses) {
+        List<DocIterator> children = new ArrayList<>();
+        long cost = 0;
+        for (BooleanQuery c : clauses) {
+            DocIterator it = plan(c);
+            if (it.cost() > 0) {
+                children.add(it);
+                cost += it.cost();
+            }
+        }
+        if (children.isEmpty()) return DocIterator.empty();
+        if (children.size() == 1) return children.get(0);
+        if (isDense(cost)) {
+            BitSet bits = new BitSet(index.docCount());
+            for (DocIterator it : children) {
+                for (int doc = it.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+                    bits.set(doc);
+                }
+            }
+            return new BitSetIterator(bits);
+        }
+        return new DisjunctionIterator(children);
+    }
+
+    private DocIterator exclude(DocIterator include, BooleanQuery excluded) {
+        DocIterator ex = plan(excluded);
+        return ex.cost() == 0 ? include : new ExclusionIterator(include, ex);
+    }
+
+    private boolean isDense(long cost) {
+        return cost * DENSE_DIVISOR >= index.docCount();
+    }
+
+    private static BitSet toBitSet(DocIterator it) {
+        if (it instanceof BitSetIterator) {
+            return ((BitSetIterator) it).bits;
+        }
+        BitSet bits = new BitSet();
+        for (int doc = it.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+            bits.set(doc);
+        }
+        return bits;
+    }
+
+    // 按文档编号递增输出的迭代器；advance 返回第一个 >= target 的文档
+    abstract static class DocIterator {
+        static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+        int doc = -1;
+
+        abstract int nextDoc();
+
+        abstract int advance(int target);
+
+        // 命中数上限估计
+        abstract long cost();
+
+        static DocIterator empty() {
+            return new ArrayIterator(new int[0]);
+        }
+    }
+
+    static final class ArrayIterator extends DocIterator {
+        private final int[] docs;
+        private int pos = -1;
+
+        ArrayIterator(int[] docs) {
+            this.docs = docs;
+        }
+
+        @Override
+        int nextDoc() {
+            return doc = ++pos < docs.length ? docs[pos] : NO_MORE_DOCS;
+        }
+
+        @Override
+        int advance(int target) {
+            // 指数探测后二分，长表被短表驱动时跳过大段
+            int lo = pos + 1;
+            if (lo >= docs.length) {
+                pos = docs.length;
+                return doc = NO_MORE_DOCS;
+            }
+            int bound = 1;
+            while (lo + bound < docs.length && docs[lo + bound] < target) {
+                bound <<= 1;
+            }
+            int idx = Arrays.binarySearch(docs, lo + (bound >> 1), Math.min(lo + bound + 1, docs.length), target);
+            pos = idx >= 0 ? idx : -idx - 1;
+            return doc = pos < docs.length ? docs[pos] : NO_MORE_DOCS;
+        }
+
+        @Override
+        long cost() {
+            return docs.length;
+        }
+    }
+
+    static final class BitSetIterator extends DocIterator {
+        final BitSet bits;
+        private final long cost;
+
+        BitSetIterator(BitSet bits) {
+            this.bits = bits;
+            this.cost = bits.cardinality();
+        }
+
+        @Override
+        int nextDoc() {
+            return advance(doc + 1);
+        }
+
+        @Override
+        int advance(int target) {
+            int next = bits.nextSetBit(target);
+            return doc = next < 0 ? NO_MORE_DOCS : next;
+        }
+
+        @Override
+        long cost() {
+            return cost;
+        }
+    }
+
+    static final class AllDocsIterator extends DocIterator {
+        private final int maxDoc;
+
+        AllDocsIterator(int maxDoc) {
+            this.maxDoc = maxDoc;
+        }
+
+        @Override
+        int nextDoc() {
+            return advance(doc + 1);
+        }
+
+        @Override
+        int advance(int target) {
+            return doc = target < maxDoc ? target : NO_MORE_DOCS;
+        }
+
+        @Override
+        long cost() {
+            return maxDoc;
+        }
+    }
+
+    // 以代价最小的子句为主导，其余子句逐个跳到候选文档
+    static final class ConjunctionIterator extends DocIterator {
+        private final DocIterator lead;
+        private final List<DocIterator> others;
+
+        ConjunctionIterator(List<DocIterator> sortedByCost) {
+            this.lead = sortedByCost.get(0);
+            this.others = sortedByCost.subList(1, sortedByCost.size());
+        }
+
+        @Override
+        int nextDoc() {
+            return align(lead.nextDoc());
+        }
+
+        @Override
+        int advance(int target) {
+            return align(lead.advance(target));
+        }
+
+        private int align(int candidate) {
+            outer:
+            while (candidate != NO_MORE_DOCS) {
+                for (DocIterator other : others) {
+                    int d = other.doc < candidate ? other.advance(candidate) : other.doc;
+                    if (d > candidate) {
+                        candidate = lead.advance(d);
+                        continue outer;
+                    }
+                }
+                return doc = candidate;
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override
+        long cost() {
+            return lead.cost();
+        }
+    }
+
+    static final class DisjunctionIterator extends DocIterator {
+        private final PriorityQueue<DocIterator> queue;
+        private final long cost;
+
+        DisjunctionIterator(List<DocIterator> children) {
+            queue = new PriorityQueue<>(children.size(), Comparator.comparingInt(it -> it.doc));
+            long c = 0;
+            for (DocIterator it : children) {
+                c += it.cost();
+                if (it.nextDoc() != NO_MORE_DOCS) {
+                    queue.add(it);
+                }
+            }
+            cost = c;
+        }
+
+        @Override
+        int nextDoc() {
+            return advance(doc + 1);
+        }
+
+        @Override
+        int advance(int target) {
+            while (!queue.isEmpty() && queue.peek().doc < target) {
+                DocIterator top = queue.poll();
+                if (top.advance(target) != NO_MORE_DOCS) {
+                    queue.add(top);
+                }
+            }
+            return doc = queue.isEmpty() ? NO_MORE_DOCS : queue.peek().doc;
+        }
+
+        @Override
+        long cost() {
+            return cost;
+        }
+    }
+
+    // 被排除一侧只在候选文档上按需前移，不会被完整展开
+    static final class ExclusionIterator extends DocIterator {
+        private final DocIterator include;
+        private final DocIterator exclude;
+
+        ExclusionIterator(DocIterator include, DocIterator exclude) {
+            this.include = include;
+            this.exclude = exclude;
+        }
+
+        @Override
+        int nextDoc() {
+            return skipExcluded(include.nextDoc());
+        }
+
+        @Override
+        int advance(int target) {
+            return skipExcluded(include.advance(target));
+        }
+
+        private int skipExcluded(int candidate) {
+            while (candidate != NO_MORE_DOCS) {
+                if (exclude.doc < candidate) {
+                    exclude.advance(candidate);
+                }
+                if (exclude.doc != candidate) {
+                    return doc = candidate;
+                }
+                candidate = include.nextDoc();
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override
+        long cost() {
+            return include.cost();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// 按非单词字符切分并转小写，适用于纯英文文档
+public class RegexSegmenter implements Segmenter {
+    @Override
+    public List<String> segment(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase().split("\\W+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
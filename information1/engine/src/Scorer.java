@@ -0,0 +1,13 @@
+import java.util.List;
+import java.util.Map;
+
+// 查询策略：在一个快照上执行查询，返回命中文档及得分，按排名先后排列。
+// 查询中没有有效关键词时返回 null；语法错误抛 IllegalArgumentException
+public interface Scorer {
+    Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query);
+
+    // 查询中用于摘要高亮和预测的词
+    default List<String> terms(Engine engine, String query) {
+        return engine.segmenter().segment(query.toLowerCase());
+    }
+}
@@ -0,0 +1,66 @@
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 不可变索引段：构建完成后只读，可被多个快照共享。
+// 引用计数归零（不再被任何快照持有）时释放
+public class Segment implements Closeable {
+    private final AtomicInteger refCount = new AtomicInteger();
+    private PostingsIndex postings;
+    private Map<String, Map<String, Integer>> bigramCounts;
+    private Map<String, Integer> unigramCounts;
+
+    private Segment(PostingsIndex postings, Map<String, Map<String, Integer>> bigramCounts,
+                    Map<String, Integer> unigramCounts) {
+        this.postings = postings;
+        this.bigramCounts = bigramCounts;
+        this.unigramCounts = unigramCounts;
+    }
+
+    // 由已建好的倒排表和 bigram 统计直接生成段，调用方此后不得再修改这些 Map
+    public static Segment of(Map<String, List<String>> invertedIndex, BloomFilter termFilter,
+                             Map<String, Map<String, Integer>> bigramCounts, Map<String, Integer> unigramCounts) {
+        return new Segment(PostingsIndex.build(invertedIndex, termFilter), bigramCounts, unigramCounts);
+    }
+
+    // docWords: docID -> 分词结果
+    public static Segment build(Map<String, List<String>> docWords) {
+        Map<String, List<String>> index = new HashMap<>();
+        Map<String, Map<String, Integer>> bigrams = new HashMap<>();
+        Map<String, Integer> unigrams = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : docWords.entrySet()) {
+            Engine.indexWords(entry.getKey(), entry.getValue(), index, bigrams, unigrams);
+        }
+        return of(index, BloomFilter.build(index.keySet()), bigrams, unigrams);
+    }
+
+    public PostingsIndex postings() {
+        return postings;
+    }
+
+    public Map<String, Integer> nextWords(String word) {
+        if (!postings.mightContain(word)) return Collections.emptyMap();
+        return bigramCounts.getOrDefault(word, Collections.emptyMap());
+    }
+
+    public int unigramCount(String word) {
+        return unigramCounts.getOrDefault(word, 0);
+    }
+
+    void incRef() {
+        refCount.incrementAndGet();
+    }
+
+    void decRef() {
+        if (refCount.decrementAndGet() == 0) {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        postings = null;
+        bigramCounts = null;
+        unigramCounts = null;
+    }
+}
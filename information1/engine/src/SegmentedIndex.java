@@ -0,0 +1,156 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 段式索引：写入方追加不可变段并原子替换段列表快照（写时复制），
+// 读取方无锁获取带引用计数的快照，查询期间不受写入影响。
+// 被替换掉的段在最后一个持有它的快照释放后才关闭。
+public class SegmentedIndex {
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(
+            new Snapshot(Collections.emptyList(), Collections.emptyList()));
+
+    // 用完必须调用 release()
+    public Snapshot acquire() {
+        while (true) {
+            Snapshot snapshot = current.get();
+            if (snapshot.tryIncRef()) {
+                return snapshot;
+            }
+        }
+    }
+
+    public int segmentCount() {
+        return current.get().segments.size();
+    }
+
+    // 追加新段；updatedDocs 中的文档在旧段里标记为删除（已被新段覆盖或已从目录中移除）
+    public synchronized void addSegment(Segment segment, Collection<String> updatedDocs) {
+        Snapshot old = current.get();
+        List<Segment> segments = new ArrayList<>();
+        List<BitSet> deletions = new ArrayList<>();
+        for (int i = 0; i < old.segments.size(); i++) {
+            Segment s = old.segments.get(i);
+            BitSet deleted = old.deletions.get(i);
+            BitSet copy = null;
+            for (String docID : updatedDocs) {
+                int ord = s.postings().ordinal(docID);
+                if (ord >= 0 && (deleted == null || !deleted.get(ord))) {
+                    if (copy == null) {
+                        copy = deleted == null ? new BitSet() : (BitSet) deleted.clone();
+                    }
+                    copy.set(ord);
+                }
+            }
+            if (copy == null) copy = deleted;
+            // 全部文档都已删除的段直接丢弃
+            if (copy != null && copy.cardinality() == s.postings().docCount()) continue;
+            segments.add(s);
+            deletions.add(copy);
+        }
+        if (segment != null && segment.postings().docCount() > 0) {
+            segments.add(segment);
+            deletions.add(null);
+        }
+        swap(old, new Snapshot(segments, deletions));
+    }
+
+    // 用单个段替换全部内容（初次加载或合并）
+    public synchronized void replaceAll(Segment segment) {
+        swap(current.get(), new Snapshot(Collections.singletonList(segment), Collections.singletonList(null)));
+    }
+
+    private void swap(Snapshot old, Snapshot next) {
+        current.set(next);
+        old.release();
+    }
+
+    public static final class Snapshot {
+        private final List<Segment> segments;
+        private final List<BitSet> deletions;
+        // 初始 1 为 SegmentedIndex 自身持有的引用
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        private Snapshot(List<Segment> segments, List<BitSet> deletions) {
+            this.segments = segments;
+            this.deletions = deletions;
+            segments.forEach(Segment::incRef);
+        }
+
+        private boolean tryIncRef() {
+            while (true) {
+                int count = refCount.get();
+                if (count == 0) return false;
+                if (refCount.compareAndSet(count, count + 1)) return true;
+            }
+        }
+
+        public void release() {
+            if (refCount.decrementAndGet() == 0) {
+                segments.forEach(Segment::decRef);
+            }
+        }
+
+        public List<String> search(BooleanQuery query) {
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                result.addAll(new QueryPlanner(segments.get(i).postings()).search(query, deletions.get(i)));
+            }
+            Collections.sort(result);
+            return result;
+        }
+
+        // 按倒排表计算 Jaccard 相似度：|交集| 为命中的查询词数，|并集| = 文档词数 + 查询词数 - |交集|
+        public Map<String, Double> jaccard(Collection<String> terms) {
+            Set<String> querySet = new HashSet<>(terms);
+            Map<String, Double> scores = new HashMap<>();
+            for (int i = 0; i < segments.size(); i++) {
+                PostingsIndex postings = segments.get(i).postings();
+                BitSet deleted = deletions.get(i);
+                int[] intersection = new int[postings.docCount()];
+                for (String term : querySet) {
+                    for (int doc : postings.postings(term)) {
+                        intersection[doc]++;
+                    }
+                }
+                for (int doc = 0; doc < intersection.length; doc++) {
+                    if (intersection[doc] == 0 || (deleted != null && deleted.get(doc))) continue;
+                    int union = postings.docLength(doc) + querySet.size() - intersection[doc];
+                    scores.put(postings.docName(doc), (double) intersection[doc] / union);
+                }
+            }
+            return scores;
+        }
+
+        // 未被删除的全部文档
+        public List<String> docNames() {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                PostingsIndex postings = segments.get(i).postings();
+                BitSet deleted = deletions.get(i);
+                for (int doc = 0; doc < postings.docCount(); doc++) {
+                    if (deleted == null || !deleted.get(doc)) {
+                        names.add(postings.docName(doc));
+                    }
+                }
+            }
+            return names;
+        }
+
+        public Set<String> terms() {
+            Set<String> terms = new HashSet<>();
+            segments.forEach(s -> terms.addAll(s.postings().terms()));
+            return terms;
+        }
+
+        public Map<String, Integer> nextWords(String word) {
+            if (segments.size() == 1) {
+                return segments.get(0).nextWords(word);
+            }
+            Map<String, Integer> merged = new HashMap<>();
+            for (Segment s : segments) {
+                s.nextWords(word).forEach((next, count) -> merged.merge(next, count, Integer::sum));
+            }
+            return merged;
+        }
+    }
+}
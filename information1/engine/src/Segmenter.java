@@ -0,0 +1,6 @@
+import java.util.List;
+
+// 分词策略：把一段文本切成索引词，建索引和解析查询使用同一个实例
+public interface Segmenter {
+    List<String> segment(String text);
+}
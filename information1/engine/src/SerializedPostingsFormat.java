@@ -0,0 +1,23 @@
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+
+// Java 对象序列化格式
+public class SerializedPostingsFormat implements PostingsFormat {
+    @Override
+    public void write(Map<String, List<String>> invertedIndex, File file) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(invertedIndex);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, List<String>> read(File file) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+            return (Map<String, List<String>>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("索引文件格式错误：" + file, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+// 子串匹配：在文档原文（忽略大小写）中查找整个输入，不经过倒排表。
+// 空串是任何文档的子串，输入为空时返回全部文档
+public class SubstringScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        String keyword = query.trim().toLowerCase();
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String doc : snapshot.docNames()) {
+            try {
+                String text = engine.documentText(doc);
+                if (text != null && text.toLowerCase().contains(keyword)) {
+                    result.put(doc, 1.0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> terms(Engine engine, String query) {
+        return Collections.singletonList(query.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,20 @@
+import java.util.*;
+
+// 精确匹配：整个输入（转小写）作为一个索引词查找，不分词
+public class TermScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        String term = query.trim().toLowerCase();
+        if (term.isEmpty()) return null;
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String doc : snapshot.search(new BooleanQuery.Term(term))) {
+            result.put(doc, 1.0);
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> terms(Engine engine, String query) {
+        return Collections.singletonList(query.trim().toLowerCase());
+    }
+}
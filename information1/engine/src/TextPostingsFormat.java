@@ -0,0 +1,34 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// 文本格式，每行 "词:d1,d2,..."，UTF-8 编码
+public class TextPostingsFormat implements PostingsFormat {
+    @Override
+    public void write(Map<String, List<String>> invertedIndex, File file) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, List<String>> entry : invertedIndex.entrySet()) {
+                writer.write(entry.getKey() + ":" + String.join(",", entry.getValue()));
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, List<String>> read(File file) throws IOException {
+        Map<String, List<String>> invertedIndex = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int colonIndex = line.indexOf(':');
+                if (colonIndex == -1) continue;
+                String keyword = line.substring(0, colonIndex);
+                List<String> docs = Arrays.asList(line.substring(colonIndex + 1).split(","));
+                invertedIndex.put(keyword, new ArrayList<>(docs));
+            }
+        }
+        return invertedIndex;
+    }
+}
@@ -0,0 +1,30 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// 整词匹配：整个输入（可含空格，按短语处理）在文档原文中以单词边界出现，不经过倒排表。
+// 输入为空时与子串匹配一致，返回全部文档
+public class WholeWordScorer implements Scorer {
+    @Override
+    public Map<String, Double> score(Engine engine, SegmentedIndex.Snapshot snapshot, String query) {
+        Pattern pattern = Pattern.compile("\\b" + Pattern.quote(query.trim().toLowerCase()) + "\\b");
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String doc : snapshot.docNames()) {
+            try {
+                String text = engine.documentText(doc);
+                if (text != null && pattern.matcher(text.toLowerCase()).find()) {
+                    result.put(doc, 1.0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> terms(Engine engine, String query) {
+        return Collections.singletonList(query.trim().toLowerCase());
+    }
+}